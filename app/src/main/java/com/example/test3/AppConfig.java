@@ -0,0 +1,157 @@
+package com.example.test3;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.Looper;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// 应用配置的不可变快照，由MainActivity和SettingsActivity共享
+public final class AppConfig {
+    public static final String PREFS_NAME = "AppPreferences";
+    public static final String DEFAULT_SERVER = "tcp://mqtt.eclipseprojects.io:1883";
+
+    private static final String KEY_SERVER = "server";
+    private static final String KEY_CLIENT_ID = "clientId";
+    private static final String KEY_SUBSCRIBE_TOPIC = "subscribe_topic";
+    private static final String KEY_PUBLISH_TOPIC = "publish_topic";
+    private static final String KEY_MESSAGE = "message";
+    private static final String KEY_CONNECT_ON_LAUNCH = "connect_on_launch";
+
+    public interface OnConfigLoadedListener {
+        void onConfigLoaded(AppConfig config);
+    }
+
+    // 后台线程读取SharedPreferences，避免在主线程上阻塞磁盘IO
+    private static final ExecutorService loader = Executors.newSingleThreadExecutor();
+    private static final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private static final Object lock = new Object();
+    private static final List<OnConfigLoadedListener> pendingListeners = new ArrayList<>();
+    private static volatile AppConfig current;
+    private static boolean loading;
+
+    public final String server;
+    public final String clientId;
+    public final String subscribeTopic;
+    public final String publishTopic;
+    public final String message;
+    public final boolean connectOnLaunch;
+
+    public AppConfig(String server, String clientId, String subscribeTopic, String publishTopic,
+                     String message, boolean connectOnLaunch) {
+        this.server = server;
+        this.clientId = clientId;
+        this.subscribeTopic = subscribeTopic;
+        this.publishTopic = publishTopic;
+        this.message = message;
+        this.connectOnLaunch = connectOnLaunch;
+    }
+
+    // 返回已加载的配置，尚未加载完成时返回null
+    public static AppConfig current() {
+        return current;
+    }
+
+    // 异步预加载配置，可在Application启动时尽早调用
+    public static void preload(Context context) {
+        load(context, null);
+    }
+
+    // 获取配置，监听器始终在主线程回调
+    public static void load(Context context, OnConfigLoadedListener listener) {
+        AppConfig config = current;
+        if (config != null) {
+            if (listener != null) {
+                dispatch(listener, config);
+            }
+            return;
+        }
+
+        final Context appContext = context.getApplicationContext();
+        synchronized (lock) {
+            if (current != null) {
+                if (listener != null) {
+                    dispatch(listener, current);
+                }
+                return;
+            }
+            if (listener != null) {
+                pendingListeners.add(listener);
+            }
+            if (loading) {
+                return;
+            }
+            loading = true;
+        }
+
+        loader.execute(() -> {
+            AppConfig loaded = read(appContext.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE));
+            List<OnConfigLoadedListener> listeners;
+            synchronized (lock) {
+                // 加载期间若已保存过新配置，以新配置为准
+                if (current == null) {
+                    current = loaded;
+                }
+                loaded = current;
+                loading = false;
+                listeners = new ArrayList<>(pendingListeners);
+                pendingListeners.clear();
+            }
+            for (OnConfigLoadedListener l : listeners) {
+                dispatch(l, loaded);
+            }
+        });
+    }
+
+    // 更新共享快照并异步写回SharedPreferences
+    public static void save(Context context, AppConfig config) {
+        List<OnConfigLoadedListener> listeners;
+        synchronized (lock) {
+            current = config;
+            listeners = new ArrayList<>(pendingListeners);
+            pendingListeners.clear();
+        }
+        for (OnConfigLoadedListener l : listeners) {
+            dispatch(l, config);
+        }
+
+        SharedPreferences.Editor editor = context.getApplicationContext()
+                .getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE).edit();
+        editor.putString(KEY_SERVER, config.server);
+        editor.putString(KEY_CLIENT_ID, config.clientId);
+        editor.putString(KEY_SUBSCRIBE_TOPIC, config.subscribeTopic);
+        editor.putString(KEY_PUBLISH_TOPIC, config.publishTopic);
+        editor.putString(KEY_MESSAGE, config.message);
+        editor.putBoolean(KEY_CONNECT_ON_LAUNCH, config.connectOnLaunch);
+        editor.apply();
+    }
+
+    public AppConfig withServerSettings(String server, String clientId, boolean connectOnLaunch) {
+        return new AppConfig(server, clientId, subscribeTopic, publishTopic, message, connectOnLaunch);
+    }
+
+    public AppConfig withMessageDraft(String subscribeTopic, String publishTopic, String message) {
+        return new AppConfig(server, clientId, subscribeTopic, publishTopic, message, connectOnLaunch);
+    }
+
+    private static AppConfig read(SharedPreferences prefs) {
+        return new AppConfig(
+                prefs.getString(KEY_SERVER, DEFAULT_SERVER),
+                prefs.getString(KEY_CLIENT_ID, ""),
+                prefs.getString(KEY_SUBSCRIBE_TOPIC, "test/topic"),
+                prefs.getString(KEY_PUBLISH_TOPIC, "test/topic"),
+                prefs.getString(KEY_MESSAGE, "Hello MQTT!"),
+                prefs.getBoolean(KEY_CONNECT_ON_LAUNCH, false));
+    }
+
+    private static void dispatch(OnConfigLoadedListener listener, AppConfig config) {
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            listener.onConfigLoaded(config);
+        } else {
+            mainHandler.post(() -> listener.onConfigLoaded(config));
+        }
+    }
+}
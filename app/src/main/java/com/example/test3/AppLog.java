@@ -0,0 +1,347 @@
+package com.example.test3;
+
+import android.os.SystemClock;
+import android.util.Log;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+// 结构化日志：级别检查只读一个volatile字段，参数以"{}"占位符延迟格式化，
+// 事件写入预分配的环形缓冲区，由后台线程统一输出到logcat
+public final class AppLog {
+    private static final String TAG = "AppLog";
+    private static final int CAPACITY = 1024;
+    private static final int DEFAULT_MAX_PER_SECOND = 50;
+    static final long RATE_WINDOW_MS = 1000;
+
+    private static volatile int minLevel = Log.INFO;
+
+    // 以下状态均由lock保护
+    private static final Object lock = new Object();
+    private static final Ring ring = new Ring(CAPACITY);
+    // 有未输出限流计数的调用点，由写线程在其窗口结束后补充输出
+    private static final List<Site> suppressedSites = new ArrayList<>();
+
+    static {
+        Thread writer = new Thread(AppLog::drainLoop, "AppLog-writer");
+        writer.setDaemon(true);
+        writer.setPriority(Thread.MIN_PRIORITY);
+        writer.start();
+    }
+
+    private AppLog() {
+    }
+
+    // 按构建类型设置默认级别；发布构建可通过 adb shell setprop log.tag.AppLog VERBOSE
+    // 打开更详细的日志，重启应用后生效
+    public static void init(boolean debuggable) {
+        int level = debuggable ? Log.VERBOSE : Log.INFO;
+        for (int l = Log.VERBOSE; l < level; l++) {
+            if (Log.isLoggable(TAG, l)) {
+                level = l;
+                break;
+            }
+        }
+        minLevel = level;
+    }
+
+    // 为一个调用点创建日志入口，应保存为static final字段
+    public static Site site(int level, String tag, String format) {
+        return new Site(level, tag, format, DEFAULT_MAX_PER_SECOND);
+    }
+
+    public static Site site(int level, String tag, String format, int maxPerSecond) {
+        return new Site(level, tag, format, maxPerSecond);
+    }
+
+    // 一个日志调用点：固定级别、标签和格式串，并单独限流
+    public static final class Site {
+        final int level;
+        final String tag;
+        final String format;
+        final int maxPerSecond;
+        // 以下字段仅在持有lock时访问
+        long windowStart;
+        int countInWindow;
+        int suppressed;
+        boolean flushPending;
+
+        private Site(int level, String tag, String format, int maxPerSecond) {
+            this.level = level;
+            this.tag = tag;
+            this.format = format;
+            this.maxPerSecond = maxPerSecond;
+        }
+
+        public boolean isEnabled() {
+            return level >= minLevel;
+        }
+
+        public void log() {
+            if (level >= minLevel) {
+                enqueue(this, null, 0, null, null, null);
+            }
+        }
+
+        public void log(Object a0) {
+            if (level >= minLevel) {
+                enqueue(this, null, 1, a0, null, null);
+            }
+        }
+
+        public void log(Object a0, Object a1) {
+            if (level >= minLevel) {
+                enqueue(this, null, 2, a0, a1, null);
+            }
+        }
+
+        public void log(Object a0, Object a1, Object a2) {
+            if (level >= minLevel) {
+                enqueue(this, null, 3, a0, a1, a2);
+            }
+        }
+
+        public void logCause(Throwable cause) {
+            if (level >= minLevel) {
+                enqueue(this, cause, 0, null, null, null);
+            }
+        }
+
+        public void logCause(Throwable cause, Object a0) {
+            if (level >= minLevel) {
+                enqueue(this, cause, 1, a0, null, null);
+            }
+        }
+
+        public void logCause(Throwable cause, Object a0, Object a1) {
+            if (level >= minLevel) {
+                enqueue(this, cause, 2, a0, a1, null);
+            }
+        }
+
+        // 按固定窗口限流：窗口内超出maxPerSecond的事件只计入suppressed
+        boolean tryAcquire(long now) {
+            if (now - windowStart >= RATE_WINDOW_MS) {
+                windowStart = now;
+                countInWindow = 0;
+            }
+            if (countInWindow >= maxPerSecond) {
+                suppressed++;
+                return false;
+            }
+            countInWindow++;
+            return true;
+        }
+    }
+
+    static final class Event {
+        Site site;
+        Throwable cause;
+        int argCount;
+        Object a0;
+        Object a1;
+        Object a2;
+        int suppressed;
+        // 仅用于补充输出限流计数，不含原始参数
+        boolean suppressedOnly;
+
+        void clear() {
+            site = null;
+            cause = null;
+            argCount = 0;
+            a0 = null;
+            a1 = null;
+            a2 = null;
+            suppressed = 0;
+            suppressedOnly = false;
+        }
+    }
+
+    // 预分配的定长环形缓冲区，满时丢弃新事件并计数；本身不做同步
+    static final class Ring {
+        private final Event[] slots;
+        private final int mask;
+        private long head;
+        private long tail;
+        private int dropped;
+
+        Ring(int capacity) {
+            if (Integer.bitCount(capacity) != 1) {
+                throw new IllegalArgumentException("capacity must be a power of two: " + capacity);
+            }
+            slots = new Event[capacity];
+            for (int i = 0; i < capacity; i++) {
+                slots[i] = new Event();
+            }
+            mask = capacity - 1;
+        }
+
+        boolean isEmpty() {
+            return head == tail;
+        }
+
+        boolean offer(Site site, Throwable cause, int argCount, Object a0, Object a1, Object a2,
+                      int suppressed, boolean suppressedOnly) {
+            if (head - tail == slots.length) {
+                dropped++;
+                return false;
+            }
+            Event event = slots[(int) (head & mask)];
+            event.site = site;
+            event.cause = cause;
+            event.argCount = argCount;
+            event.a0 = a0;
+            event.a1 = a1;
+            event.a2 = a2;
+            event.suppressed = suppressed;
+            event.suppressedOnly = suppressedOnly;
+            head++;
+            return true;
+        }
+
+        boolean poll(Event into) {
+            if (head == tail) {
+                return false;
+            }
+            Event event = slots[(int) (tail & mask)];
+            into.site = event.site;
+            into.cause = event.cause;
+            into.argCount = event.argCount;
+            into.a0 = event.a0;
+            into.a1 = event.a1;
+            into.a2 = event.a2;
+            into.suppressed = event.suppressed;
+            into.suppressedOnly = event.suppressedOnly;
+            event.clear();
+            tail++;
+            return true;
+        }
+
+        int takeDropped() {
+            int count = dropped;
+            dropped = 0;
+            return count;
+        }
+    }
+
+    private static void enqueue(Site site, Throwable cause, int argCount, Object a0, Object a1, Object a2) {
+        long now = SystemClock.uptimeMillis();
+        synchronized (lock) {
+            if (!site.tryAcquire(now)) {
+                if (!site.flushPending) {
+                    // 首次被限流时登记，并唤醒写线程以便在窗口结束后输出计数
+                    site.flushPending = true;
+                    suppressedSites.add(site);
+                    lock.notify();
+                }
+                return;
+            }
+
+            // 缓冲区已满时丢弃新事件，不阻塞调用线程
+            boolean wasEmpty = ring.isEmpty();
+            if (ring.offer(site, cause, argCount, a0, a1, a2, site.suppressed, false)) {
+                site.suppressed = 0;
+                if (wasEmpty) {
+                    lock.notify();
+                }
+            }
+        }
+    }
+
+    // 将窗口已结束的调用点的限流计数写入缓冲区，返回距下一个窗口结束的毫秒数（无待处理时为0）
+    private static long flushSuppressed(long now) {
+        long nextWait = 0;
+        for (int i = suppressedSites.size() - 1; i >= 0; i--) {
+            Site site = suppressedSites.get(i);
+            long remaining = RATE_WINDOW_MS - (now - site.windowStart);
+            if (site.suppressed == 0 || remaining <= 0) {
+                if (site.suppressed > 0
+                        && ring.offer(site, null, 0, null, null, null, site.suppressed, true)) {
+                    site.suppressed = 0;
+                }
+                if (site.suppressed == 0) {
+                    site.flushPending = false;
+                    suppressedSites.remove(i);
+                    continue;
+                }
+                // 缓冲区已满，稍后重试
+                remaining = RATE_WINDOW_MS;
+            }
+            if (nextWait == 0 || remaining < nextWait) {
+                nextWait = remaining;
+            }
+        }
+        return nextWait;
+    }
+
+    private static void drainLoop() {
+        Event local = new Event();
+        StringBuilder sb = new StringBuilder(256);
+        while (true) {
+            int droppedSnapshot;
+            synchronized (lock) {
+                while (ring.isEmpty()) {
+                    long waitMs = 0;
+                    if (!suppressedSites.isEmpty()) {
+                        waitMs = flushSuppressed(SystemClock.uptimeMillis());
+                        if (!ring.isEmpty()) {
+                            break;
+                        }
+                    }
+                    try {
+                        lock.wait(waitMs);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                ring.poll(local);
+                droppedSnapshot = ring.takeDropped();
+            }
+
+            if (droppedSnapshot > 0) {
+                Log.w(TAG, "Log buffer full, dropped " + droppedSnapshot + " events");
+            }
+            write(local, sb);
+            local.clear();
+        }
+    }
+
+    private static void write(Event event, StringBuilder sb) {
+        sb.setLength(0);
+        if (event.suppressedOnly) {
+            sb.append("suppressed ").append(event.suppressed).append(" events: ").append(event.site.format);
+        } else {
+            format(sb, event.site.format, event.argCount, event.a0, event.a1, event.a2);
+            if (event.suppressed > 0) {
+                sb.append(" (suppressed ").append(event.suppressed).append(')');
+            }
+        }
+        if (event.cause != null) {
+            sb.append('\n').append(Log.getStackTraceString(event.cause));
+        }
+        Log.println(event.site.level, event.site.tag, sb.toString());
+    }
+
+    // 依次用参数替换格式串中的"{}"，多余的占位符原样保留，多余的参数忽略
+    static void format(StringBuilder sb, String format, int argCount, Object a0, Object a1, Object a2) {
+        int argIndex = 0;
+        int start = 0;
+        int pos;
+        while (argIndex < argCount && (pos = format.indexOf("{}", start)) >= 0) {
+            sb.append(format, start, pos);
+            appendArg(sb, argIndex == 0 ? a0 : argIndex == 1 ? a1 : a2);
+            argIndex++;
+            start = pos + 2;
+        }
+        sb.append(format, start, format.length());
+    }
+
+    private static void appendArg(StringBuilder sb, Object arg) {
+        if (arg instanceof byte[]) {
+            // 消息负载在写线程中才解码，调用线程无需构造字符串
+            sb.append(new String((byte[]) arg, StandardCharsets.UTF_8));
+        } else {
+            sb.append(arg);
+        }
+    }
+}
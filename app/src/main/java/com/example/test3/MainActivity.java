@@ -1,9 +1,11 @@
 package com.example.test3;
 
 import android.content.Intent;
-import android.content.SharedPreferences;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.view.View;
+import android.view.ViewTreeObserver;
 import android.widget.Button;
 import android.widget.EditText;
 import android.widget.TextView;
@@ -21,8 +23,17 @@ import android.util.Log;
 
 public class MainActivity extends AppCompatActivity {
     private static final String TAG = "MainActivity";
+    private static final AppLog.Site LOG_CONNECT_ERROR = AppLog.site(Log.ERROR, TAG, "Connect failed: {}");
+    private static final int MAX_RECONNECT_ATTEMPTS = 5;
+    private static final long RECONNECT_BASE_DELAY_MS = 1000;
     private MqttClientManager mqttClientManager;
-    private SharedPreferences sharedPreferences;
+    // 配置加载并填充到输入框之前不回写草稿，避免空值覆盖已保存的内容
+    private boolean configApplied;
+    // 启动时自动连接是否已完成或被用户操作取代；屏幕旋转等重建时若尚未完成会重新发起
+    private static boolean launchConnectDone;
+    // 连接失败后的自动重连：指数退避，超过次数上限后交由用户手动重试
+    private final Handler reconnectHandler = new Handler(Looper.getMainLooper());
+    private int reconnectAttempts;
     private EditText etSubscribeTopic, etPublishTopic, etMessage;
     private Button btnConnect, btnDisconnect, btnSubscribe, btnPublish, btnSettings;
     private Set<String> subscribedTopics = new HashSet<>();
@@ -33,12 +44,18 @@ public class MainActivity extends AppCompatActivity {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_main);
 
-        // 初始化SharedPreferences
-        sharedPreferences = getSharedPreferences("AppPreferences", MODE_PRIVATE);
-
         // 初始化控件
         initViews();
 
+        // 配置加载完成前禁止连接
+        btnConnect.setEnabled(false);
+
+        // 记录首帧绘制时间
+        trackFirstFrame();
+
+        // 异步加载配置（通常已在Application中预加载完成）
+        AppConfig.load(this, this::onConfigLoaded);
+
         // 初始化MQTT客户端
         mqttClientManager = null;
 
@@ -72,15 +89,60 @@ public class MainActivity extends AppCompatActivity {
         etPublishTopic = findViewById(R.id.et_publish_topic);
         etMessage = findViewById(R.id.et_message);
         tvLogContent = findViewById(R.id.tv_log_content);
+    }
+
+    private void trackFirstFrame() {
+        final View decorView = getWindow().getDecorView();
+        decorView.getViewTreeObserver().addOnPreDrawListener(new ViewTreeObserver.OnPreDrawListener() {
+            @Override
+            public boolean onPreDraw() {
+                decorView.getViewTreeObserver().removeOnPreDrawListener(this);
+                long elapsed = StartupMetrics.markFirstFrame();
+                if (elapsed != StartupMetrics.NOT_RECORDED) {
+                    addLog("启动耗时 - 首帧: " + elapsed + "ms");
+                }
+                return true;
+            }
+        });
+    }
+
+    // 配置加载完成后填充输入框
+    private void onConfigLoaded(AppConfig config) {
+        if (isFinishing() || isDestroyed()) {
+            return;
+        }
+        StartupMetrics.markConfigLoaded();
+        etSubscribeTopic.setText(config.subscribeTopic);
+        etPublishTopic.setText(config.publishTopic);
+        etMessage.setText(config.message);
+        configApplied = true;
+
+        if (config.connectOnLaunch && !launchConnectDone && mqttClientManager == null) {
+            // 启动时自动连接：配置就绪后立即发起连接，连接结果前保持连接按钮禁用
+            addLog("启动时自动连接");
+            createNewMqttClient(config.server, uniqueClientId(config.clientId), true);
+        } else {
+            btnConnect.setEnabled(true);
+        }
+    }
 
-        // 从SharedPreferences加载保存的值
-        etSubscribeTopic.setText(sharedPreferences.getString("subscribe_topic", "test/topic"));
-        etPublishTopic.setText(sharedPreferences.getString("publish_topic", "test/topic"));
-        etMessage.setText(sharedPreferences.getString("message", "Hello MQTT!"));
+    // 用户手动连接或断开后，后续连接不再计入启动耗时
+    private static void endLaunchConnect() {
+        launchConnectDone = true;
+        StartupMetrics.endConnectionPhases();
+    }
+
+    // 确保每次连接尝试使用唯一的客户端ID
+    private static String uniqueClientId(String baseClientId) {
+        return baseClientId.isEmpty() ?
+            "android-client-" + System.currentTimeMillis() :
+            baseClientId + "-" + System.currentTimeMillis();
     }
 
     // 断开MQTT连接
     private void disconnectFromMqtt() {
+        endLaunchConnect();
+        cancelReconnect();
         if (mqttClientManager != null) {
             mqttClientManager.disconnect(new IMqttActionListener() {
                 @Override
@@ -144,13 +206,12 @@ public class MainActivity extends AppCompatActivity {
 
     // 连接到MQTT服务器
     private void connectToMqtt() {
-        final String server = sharedPreferences.getString("server", "tcp://mqtt.eclipseprojects.io:1883");
-        final String baseClientId = sharedPreferences.getString("clientId", "");
-        
-        // 确保每次连接尝试使用唯一的客户端ID
-        final String clientId = baseClientId.isEmpty() ? 
-            "android-client-" + System.currentTimeMillis() : 
-            baseClientId + "-" + System.currentTimeMillis();
+        // 连接按钮在配置加载完成后才启用，此时快照一定存在
+        AppConfig config = AppConfig.current();
+        endLaunchConnect();
+        cancelReconnect();
+        final String server = config.server;
+        final String clientId = uniqueClientId(config.clientId);
 
         try {
             // 确保先清理旧的客户端实例
@@ -158,7 +219,7 @@ public class MainActivity extends AppCompatActivity {
                 Runnable onDestroyComplete = new Runnable() {
                     @Override
                     public void run() {
-                        createNewMqttClient(server, clientId);
+                        createNewMqttClient(server, clientId, false);
                     }
                 };
                 mqttClientManager.disconnect(new IMqttActionListener() {
@@ -172,119 +233,170 @@ public class MainActivity extends AppCompatActivity {
                     }
                 });
             } else {
-                createNewMqttClient(server, clientId);
+                createNewMqttClient(server, clientId, false);
             }
         } catch (Exception e) {
             addLog("连接失败: " + e.getMessage());
-            e.printStackTrace();
+            LOG_CONNECT_ERROR.logCause(e, e.getMessage());
         }
     }
 
-    private void createNewMqttClient(String server, String clientId) {
+    // launchConnect为true表示由启动时自动连接发起，仅此时记录连接和首条消息的启动耗时
+    private void createNewMqttClient(String server, String clientId, boolean launchConnect) {
         try {
             // 创建新的MQTT客户端实例
-            mqttClientManager = new MqttClientManager(this, server, clientId, new MqttClientManager.MqttClientCallback() {
-                @Override
-                public void onConnected() {
-                    runOnUiThread(() -> {
-                        addLog("连接成功");
-                        btnConnect.setEnabled(false);
-                        btnDisconnect.setEnabled(true);
-                        btnSubscribe.setEnabled(true);
-                        btnPublish.setEnabled(true);
-                    });
-                }
+            mqttClientManager = buildMqttClient(server, clientId, launchConnect);
+            mqttClientManager.connect();
+            addLog("正在连接到: " + server);
+        } catch (Exception e) {
+            addLog("连接失败: " + e.getMessage());
+            LOG_CONNECT_ERROR.logCause(e, e.getMessage());
+        }
+    }
 
-                @Override
-                public void onConnectionFailed(String error) {
-                    runOnUiThread(() -> {
-                        addLog("连接失败: " + error);
+    private MqttClientManager buildMqttClient(String server, String clientId, boolean launchConnect) {
+        return new MqttClientManager(this, server, clientId, new MqttClientManager.MqttClientCallback() {
+            @Override
+            public void onConnected() {
+                runOnUiThread(() -> {
+                    addLog("连接成功");
+                    reconnectAttempts = 0;
+                    btnConnect.setEnabled(false);
+                    btnDisconnect.setEnabled(true);
+                    btnSubscribe.setEnabled(true);
+                    btnPublish.setEnabled(true);
+                    if (launchConnect) {
+                        launchConnectDone = true;
+                        long elapsed = StartupMetrics.markConnected();
+                        if (elapsed != StartupMetrics.NOT_RECORDED) {
+                            addLog("启动耗时 - 连接成功: " + elapsed + "ms");
+                        }
+                        // 启动连接自动订阅已保存的主题，首条消息耗时不依赖用户操作
+                        String topic = AppConfig.current().subscribeTopic.trim();
+                        if (!topic.isEmpty() && mqttClientManager != null) {
+                            mqttClientManager.subscribe(topic, 1);
+                        }
+                    }
+                });
+            }
+
+            @Override
+            public void onConnectionFailed(String error) {
+                runOnUiThread(() -> {
+                    addLog("连接失败: " + error);
+                    btnConnect.setEnabled(true);
+                    btnDisconnect.setEnabled(false);
+                    btnSubscribe.setEnabled(false);
+                    btnPublish.setEnabled(false);
+                    if (launchConnect) {
+                        // 启动时自动连接失败不再自动重试，由用户手动重新连接
+                        launchConnectDone = true;
+                        addLog("启动时自动连接失败，请手动重试");
+                        if (mqttClientManager != null) {
+                            mqttClientManager.disconnect(null);
+                            mqttClientManager = null;
+                        }
+                        return;
+                    }
+                    // 连接失败后清理资源，再按退避策略重连
+                    if (mqttClientManager != null) {
+                        mqttClientManager.disconnect(null);
+                        mqttClientManager = null;
+                    }
+                    scheduleReconnect(server, clientId);
+                });
+            }
+
+            @Override
+            public void onDisconnected() {
+                runOnUiThread(() -> {
+                    if (!isFinishing() && !isDestroyed()) {
+                        addLog("已断开连接");
                         btnConnect.setEnabled(true);
                         btnDisconnect.setEnabled(false);
                         btnSubscribe.setEnabled(false);
                         btnPublish.setEnabled(false);
-                        // 连接失败后清理资源
-                        if (mqttClientManager != null) {
-                            mqttClientManager.disconnect(new IMqttActionListener() {
-                                @Override
-                                public void onSuccess(IMqttToken asyncActionToken) {
-                                    createNewMqttClient(server, clientId);
-                                }
-                                @Override
-                                public void onFailure(IMqttToken asyncActionToken, Throwable exception) {
-                                    createNewMqttClient(server, clientId);
-                                }
-                            });
-                        }
-                    });
-                }
+                    }
+                });
+            }
 
-                @Override
-                public void onDisconnected() {
-                    runOnUiThread(() -> {
-                        if (!isFinishing() && !isDestroyed()) {
-                            addLog("已断开连接");
-                            btnConnect.setEnabled(true);
-                            btnDisconnect.setEnabled(false);
-                            btnSubscribe.setEnabled(false);
-                            btnPublish.setEnabled(false);
-                        }
-                    });
-                }
+            @Override
+            public void onConnectionLost(Throwable cause) {
+                runOnUiThread(() -> {
+                    if (!isFinishing() && !isDestroyed()) {
+                        String errorMessage = (cause != null) ? cause.getMessage() : "连接已断开";
+                        addLog("连接丢失: " + errorMessage);
+                        btnConnect.setEnabled(true);
+                        btnDisconnect.setEnabled(false);
+                        btnSubscribe.setEnabled(false);
+                        btnPublish.setEnabled(false);
+                    }
+                });
+            }
 
-                @Override
-                public void onConnectionLost(Throwable cause) {
-                    runOnUiThread(() -> {
-                        if (!isFinishing() && !isDestroyed()) {
-                            String errorMessage = (cause != null) ? cause.getMessage() : "连接已断开";
-                            addLog("连接丢失: " + errorMessage);
-                            btnConnect.setEnabled(true);
-                            btnDisconnect.setEnabled(false);
-                            btnSubscribe.setEnabled(false);
-                            btnPublish.setEnabled(false);
+            @Override
+            public void onMessageReceived(String topic, String message) {
+                runOnUiThread(() -> {
+                    addLog("收到消息 - 主题: " + topic + ", 内容: " + message);
+                    if (launchConnect) {
+                        long elapsed = StartupMetrics.markFirstMessage();
+                        if (elapsed != StartupMetrics.NOT_RECORDED) {
+                            addLog("启动耗时 - 首条消息: " + elapsed + "ms");
+                            addLog("启动耗时汇总: " + StartupMetrics.summary());
                         }
-                    });
-                }
+                    }
+                });
+            }
 
-                @Override
-                public void onMessageReceived(String topic, String message) {
-                    runOnUiThread(() -> addLog("收到消息 - 主题: " + topic + ", 内容: " + message));
-                }
+            @Override
+            public void onMessagePublished(String topic) {
+                runOnUiThread(() -> addLog("消息已发布到: " + topic));
+            }
 
-                @Override
-                public void onMessagePublished(String topic) {
-                    runOnUiThread(() -> addLog("消息已发布到: " + topic));
-                }
+            @Override
+            public void onSubscribeSuccess(String topic) {
+                runOnUiThread(() -> {
+                    addLog("订阅成功: " + topic);
+                    subscribedTopics.add(topic);
+                });
+            }
 
-                @Override
-                public void onSubscribeSuccess(String topic) {
-                    runOnUiThread(() -> {
-                        addLog("订阅成功: " + topic);
-                        subscribedTopics.add(topic);
-                    });
-                }
+            @Override
+            public void onSubscribeFailed(String topic, String error) {
+                runOnUiThread(() -> addLog("订阅失败 " + topic + ": " + error));
+            }
+        });
+    }
 
-                @Override
-                public void onSubscribeFailed(String topic, String error) {
-                    runOnUiThread(() -> addLog("订阅失败 " + topic + ": " + error));
-                }
-            });
-            mqttClientManager.connect();
-            addLog("正在连接到: " + server);
-        } catch (Exception e) {
-            addLog("连接失败: " + e.getMessage());
-            e.printStackTrace();
+    private void scheduleReconnect(String server, String clientId) {
+        if (reconnectAttempts >= MAX_RECONNECT_ATTEMPTS) {
+            addLog("重连失败次数过多，请手动重试");
+            return;
         }
+        long delay = RECONNECT_BASE_DELAY_MS << reconnectAttempts;
+        reconnectAttempts++;
+        addLog(delay + "ms后重连 (第" + reconnectAttempts + "次)");
+        reconnectHandler.postDelayed(() -> {
+            if (!isFinishing() && !isDestroyed() && mqttClientManager == null) {
+                createNewMqttClient(server, clientId, false);
+            }
+        }, delay);
+    }
+
+    private void cancelReconnect() {
+        reconnectHandler.removeCallbacksAndMessages(null);
+        reconnectAttempts = 0;
     }
 
     @Override
     protected void onPause() {
         super.onPause();
-        SharedPreferences.Editor editor = sharedPreferences.edit();
-        editor.putString("subscribe_topic", etSubscribeTopic.getText().toString());
-        editor.putString("publish_topic", etPublishTopic.getText().toString());
-        editor.putString("message", etMessage.getText().toString());
-        editor.apply();
+        if (configApplied) {
+            AppConfig.save(this, AppConfig.current().withMessageDraft(
+                    etSubscribeTopic.getText().toString(),
+                    etPublishTopic.getText().toString(),
+                    etMessage.getText().toString()));
+        }
     }
 
     // 添加日志
@@ -301,6 +413,11 @@ public class MainActivity extends AppCompatActivity {
     @Override
     protected void onDestroy() {
         super.onDestroy();
+        reconnectHandler.removeCallbacksAndMessages(null);
+        // 退出界面后再次打开视为新的启动，允许重新自动连接
+        if (isFinishing()) {
+            launchConnectDone = false;
+        }
         if (mqttClientManager != null) {
             mqttClientManager.disconnect(new IMqttActionListener() {
                 @Override
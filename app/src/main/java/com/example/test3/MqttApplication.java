@@ -0,0 +1,16 @@
+package com.example.test3;
+
+import android.app.Application;
+import android.content.pm.ApplicationInfo;
+
+public class MqttApplication extends Application {
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        // 可调试构建默认输出全部日志，发布构建默认只输出INFO及以上，系统属性log.tag.AppLog可覆盖
+        boolean debuggable = (getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0;
+        AppLog.init(debuggable);
+        // 尽早在后台预加载配置，Activity创建时通常已可直接使用
+        AppConfig.preload(this);
+    }
+}
@@ -5,6 +5,7 @@ import android.util.Log;
 import android.os.AsyncTask;
 import android.os.Handler;
 import android.os.Looper;
+import java.nio.charset.StandardCharsets;
 import java.util.concurrent.Executors;
 
 import org.eclipse.paho.android.service.MqttAndroidClient;
@@ -18,6 +19,25 @@ import org.eclipse.paho.client.mqttv3.MqttMessage;
 
 public class MqttClientManager {
     private static final String TAG = "MqttClientManager";
+    private static final AppLog.Site LOG_CONNECTION_LOST = AppLog.site(Log.ERROR, TAG, "Connection lost: {}");
+    private static final AppLog.Site LOG_MESSAGE_ARRIVED = AppLog.site(Log.DEBUG, TAG, "Message arrived: {} - {}");
+    private static final AppLog.Site LOG_CONNECTED = AppLog.site(Log.DEBUG, TAG, "Connected successfully");
+    private static final AppLog.Site LOG_CONNECT_FAILED = AppLog.site(Log.ERROR, TAG, "Connection failed");
+    private static final AppLog.Site LOG_CONNECT_ERROR = AppLog.site(Log.ERROR, TAG, "Error connecting: {}");
+    private static final AppLog.Site LOG_DISCONNECTED = AppLog.site(Log.DEBUG, TAG, "Disconnected successfully during destroy");
+    private static final AppLog.Site LOG_DISCONNECT_FAILED = AppLog.site(Log.ERROR, TAG, "Disconnection failed during destroy");
+    private static final AppLog.Site LOG_DISCONNECT_ERROR = AppLog.site(Log.ERROR, TAG, "Error during disconnect: {}");
+    private static final AppLog.Site LOG_CLEANUP_ERROR = AppLog.site(Log.ERROR, TAG, "Error cleaning up resources");
+    private static final AppLog.Site LOG_PUBLISH_NOT_CONNECTED = AppLog.site(Log.ERROR, TAG, "Cannot publish - client not connected");
+    private static final AppLog.Site LOG_PUBLISH_ERROR = AppLog.site(Log.ERROR, TAG, "Error publishing message: {}");
+    private static final AppLog.Site LOG_SUBSCRIBE_NOT_CONNECTED = AppLog.site(Log.ERROR, TAG, "Cannot subscribe - client not connected");
+    private static final AppLog.Site LOG_SUBSCRIBED = AppLog.site(Log.DEBUG, TAG, "Subscribed to topic: {}");
+    private static final AppLog.Site LOG_SUBSCRIBE_FAILED = AppLog.site(Log.ERROR, TAG, "Subscription failed for topic {}: {}");
+    private static final AppLog.Site LOG_SUBSCRIBE_ERROR = AppLog.site(Log.ERROR, TAG, "Error subscribing to topic {}: {}");
+    private static final AppLog.Site LOG_UNSUBSCRIBE_NOT_CONNECTED = AppLog.site(Log.ERROR, TAG, "Cannot unsubscribe - client not connected");
+    private static final AppLog.Site LOG_UNSUBSCRIBED = AppLog.site(Log.DEBUG, TAG, "Unsubscribed from topic: {}");
+    private static final AppLog.Site LOG_UNSUBSCRIBE_FAILED = AppLog.site(Log.ERROR, TAG, "Unsubscription failed for topic {}");
+    private static final AppLog.Site LOG_UNSUBSCRIBE_ERROR = AppLog.site(Log.ERROR, TAG, "Error unsubscribing from topic {}: {}");
     private MqttAndroidClient mqttAndroidClient;
     private MqttConnectOptions mqttConnectOptions;
     private MqttClientCallback callback;
@@ -39,8 +59,9 @@ public class MqttClientManager {
         mqttAndroidClient.setCallback(new MqttCallback() {
             @Override
             public void connectionLost(Throwable cause) {
-                String errorMessage = (cause != null) ? cause.getMessage() : "Unknown error";
-                Log.e(TAG, "Connection lost: " + errorMessage);
+                if (LOG_CONNECTION_LOST.isEnabled()) {
+                    LOG_CONNECTION_LOST.log((cause != null) ? cause.getMessage() : "Unknown error");
+                }
                 if (callback != null) {
                     callback.onConnectionLost(cause);
                 }
@@ -48,9 +69,12 @@ public class MqttClientManager {
 
             @Override
             public void messageArrived(String topic, MqttMessage message) throws Exception {
-                Log.d(TAG, "Message arrived: " + topic + " - " + new String(message.getPayload()));
-                if (MqttClientManager.this.callback != null) {
-                    MqttClientManager.this.callback.onMessageReceived(topic, new String(message.getPayload()));
+                byte[] payload = message.getPayload();
+                // 负载按原始字节传入，仅在日志级别启用时由写线程解码
+                LOG_MESSAGE_ARRIVED.log(topic, payload);
+                MqttClientCallback currentCallback = MqttClientManager.this.callback;
+                if (currentCallback != null) {
+                    currentCallback.onMessageReceived(topic, new String(payload, StandardCharsets.UTF_8));
                 }
             }
 
@@ -82,7 +106,7 @@ public class MqttClientManager {
                         new Handler(Looper.getMainLooper()).post(new Runnable() {
                             @Override
                             public void run() {
-                                Log.d(TAG, "Connected successfully");
+                                LOG_CONNECTED.log();
                                 if (callback != null) {
                                     callback.onConnected();
                                 }
@@ -96,7 +120,7 @@ public class MqttClientManager {
                         new Handler(Looper.getMainLooper()).post(new Runnable() {
                             @Override
                             public void run() {
-                                Log.e(TAG, "Connection failed", exception);
+                                LOG_CONNECT_FAILED.logCause(exception);
                                 if (callback != null) {
                                     callback.onConnectionFailed(errorMessage);
                                 }
@@ -104,6 +128,18 @@ public class MqttClientManager {
                         });
                     }
                 });
+            } catch (MqttException e) {
+                LOG_CONNECT_ERROR.logCause(e, e.getMessage());
+                // 与异步失败路径一致投递到主线程回调；重连次数和间隔由调用方的退避策略限制
+                final String errorMessage = e.getMessage();
+                new Handler(Looper.getMainLooper()).post(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (callback != null) {
+                            callback.onConnectionFailed(errorMessage);
+                        }
+                    }
+                });
             }
         }
     }
@@ -117,7 +153,7 @@ public class MqttClientManager {
                     token.setActionCallback(new IMqttActionListener() {
                         @Override
                         public void onSuccess(IMqttToken asyncActionToken) {
-                            Log.d(TAG, "Disconnected successfully during destroy");
+                            LOG_DISCONNECTED.log();
                             cleanupResources();
                             if (listener != null) {
                                 listener.onSuccess(asyncActionToken);
@@ -126,7 +162,7 @@ public class MqttClientManager {
 
                         @Override
                         public void onFailure(IMqttToken asyncActionToken, Throwable exception) {
-                            Log.e(TAG, "Disconnection failed during destroy", exception);
+                            LOG_DISCONNECT_FAILED.logCause(exception);
                             cleanupResources();
                             if (listener != null) {
                                 listener.onFailure(asyncActionToken, exception);
@@ -140,7 +176,7 @@ public class MqttClientManager {
                     }
                 }
             } catch (Exception e) {
-                Log.e(TAG, "Error during disconnect: " + e.getMessage(), e);
+                LOG_DISCONNECT_ERROR.logCause(e, e.getMessage());
                 cleanupResources();
                 if (listener != null) {
                     listener.onFailure(null, e);
@@ -160,7 +196,7 @@ public class MqttClientManager {
                 mqttAndroidClient.unregisterResources();
                 mqttAndroidClient.close();
             } catch (MqttException e) {
-                Log.e(TAG, "Error cleaning up resources", e);
+                LOG_CLEANUP_ERROR.logCause(e);
             }
             mqttAndroidClient = null;
         }
@@ -174,7 +210,7 @@ public class MqttClientManager {
     // 发布消息
     public void publish(String topic, String message, int qos, boolean retained) {
         if (mqttAndroidClient == null || !mqttAndroidClient.isConnected()) {
-            Log.e(TAG, "Cannot publish - client not connected");
+            LOG_PUBLISH_NOT_CONNECTED.log();
             return;
         }
 
@@ -185,14 +221,14 @@ public class MqttClientManager {
             mqttMessage.setRetained(retained);
             mqttAndroidClient.publish(topic, mqttMessage);
         } catch (MqttException e) {
-            Log.e(TAG, "Error publishing message: " + e.getMessage(), e);
+            LOG_PUBLISH_ERROR.logCause(e, e.getMessage());
         }
     }
 
     // 订阅主题
     public void subscribe(String topic, int qos) {
         if (mqttAndroidClient == null || !mqttAndroidClient.isConnected()) {
-            Log.e(TAG, "Cannot subscribe - client not connected");
+            LOG_SUBSCRIBE_NOT_CONNECTED.log();
             if (callback != null) {
                 callback.onSubscribeFailed(topic, "Client not connected");
             }
@@ -204,7 +240,7 @@ public class MqttClientManager {
             token.setActionCallback(new IMqttActionListener() {
                 @Override
                 public void onSuccess(IMqttToken asyncActionToken) {
-                    Log.d(TAG, "Subscribed to topic: " + topic);
+                    LOG_SUBSCRIBED.log(topic);
                     if (callback != null) {
                         callback.onSubscribeSuccess(topic);
                     }
@@ -213,14 +249,14 @@ public class MqttClientManager {
                 @Override
                 public void onFailure(IMqttToken asyncActionToken, Throwable exception) {
                     String errorMessage = exception != null ? exception.getMessage() : "Unknown error";
-                    Log.e(TAG, "Subscription failed for topic " + topic + ": " + errorMessage);
+                    LOG_SUBSCRIBE_FAILED.log(topic, errorMessage);
                     if (callback != null) {
                         callback.onSubscribeFailed(topic, errorMessage);
                     }
                 }
             });
         } catch (MqttException e) {
-            Log.e(TAG, "Error subscribing to topic " + topic + ": " + e.getMessage(), e);
+            LOG_SUBSCRIBE_ERROR.logCause(e, topic, e.getMessage());
             if (callback != null) {
                 callback.onSubscribeFailed(topic, e.getMessage());
             }
@@ -230,7 +266,7 @@ public class MqttClientManager {
     // 取消订阅主题
     public void unsubscribe(String topic) {
         if (mqttAndroidClient == null || !mqttAndroidClient.isConnected()) {
-            Log.e(TAG, "Cannot unsubscribe - client not connected");
+            LOG_UNSUBSCRIBE_NOT_CONNECTED.log();
             return;
         }
 
@@ -239,16 +275,16 @@ public class MqttClientManager {
             token.setActionCallback(new IMqttActionListener() {
                 @Override
                 public void onSuccess(IMqttToken asyncActionToken) {
-                    Log.d(TAG, "Unsubscribed from topic: " + topic);
+                    LOG_UNSUBSCRIBED.log(topic);
                 }
 
                 @Override
                 public void onFailure(IMqttToken asyncActionToken, Throwable exception) {
-                    Log.e(TAG, "Unsubscription failed for topic " + topic + ": " + exception.getMessage(), exception);
+                    LOG_UNSUBSCRIBE_FAILED.logCause(exception, topic);
                 }
             });
         } catch (MqttException e) {
-            Log.e(TAG, "Error unsubscribing from topic " + topic + ": " + e.getMessage(), e);
+            LOG_UNSUBSCRIBE_ERROR.logCause(e, topic, e.getMessage());
         }
     }
 }
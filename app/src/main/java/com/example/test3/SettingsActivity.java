@@ -1,10 +1,10 @@
 package com.example.test3;
 
 import android.content.Intent;
-import android.content.SharedPreferences;
 import android.os.Bundle;
 import android.view.View;
 import android.widget.Button;
+import android.widget.CheckBox;
 import android.widget.EditText;
 import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
@@ -12,7 +12,8 @@ import androidx.appcompat.app.AppCompatActivity;
 public class SettingsActivity extends AppCompatActivity {
     private EditText etServer;
     private EditText etClientId;
-    private SharedPreferences sharedPreferences;
+    private CheckBox cbConnectOnLaunch;
+    private Button btnSave;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -22,14 +23,15 @@ public class SettingsActivity extends AppCompatActivity {
         // 初始化控件
         etServer = findViewById(R.id.et_server);
         etClientId = findViewById(R.id.et_client_id);
-        Button btnSave = findViewById(R.id.btn_save);
+        cbConnectOnLaunch = findViewById(R.id.cb_connect_on_launch);
+        btnSave = findViewById(R.id.btn_save);
         Button btnBack = findViewById(R.id.btn_back);
 
-        // 获取SharedPreferences实例
-        sharedPreferences = getSharedPreferences("AppPreferences", MODE_PRIVATE);
+        // 配置加载完成前禁止保存
+        btnSave.setEnabled(false);
 
         // 加载保存的设置
-        loadSavedSettings();
+        AppConfig.load(this, this::loadSavedSettings);
 
         // 保存按钮点击事件
         btnSave.setOnClickListener(v -> saveSettings());
@@ -39,14 +41,17 @@ public class SettingsActivity extends AppCompatActivity {
     }
 
     // 加载保存的设置
-    private void loadSavedSettings() {
-        String server = sharedPreferences.getString("server", "tcp://mqtt.eclipseprojects.io:1883");
-        String clientId = sharedPreferences.getString("clientId", "");
-        etServer.setText(server);
-        etClientId.setText(clientId);
+    private void loadSavedSettings(AppConfig loaded) {
+        if (isFinishing() || isDestroyed()) {
+            return;
+        }
+        etServer.setText(loaded.server);
+        etClientId.setText(loaded.clientId);
+        cbConnectOnLaunch.setChecked(loaded.connectOnLaunch);
+        btnSave.setEnabled(true);
     }
 
-    // 保存设置到SharedPreferences
+    // 保存设置
     private void saveSettings() {
         String server = etServer.getText().toString().trim();
         String clientId = etClientId.getText().toString().trim();
@@ -56,10 +61,7 @@ public class SettingsActivity extends AppCompatActivity {
             return;
         }
 
-        SharedPreferences.Editor editor = sharedPreferences.edit();
-        editor.putString("server", server);
-        editor.putString("clientId", clientId);
-        editor.apply();
+        AppConfig.save(this, AppConfig.current().withServerSettings(server, clientId, cbConnectOnLaunch.isChecked()));
 
         Toast.makeText(this, "设置保存成功", Toast.LENGTH_SHORT).show();
         finish();
@@ -0,0 +1,60 @@
+package com.example.test3;
+
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 记录冷启动各阶段耗时（相对进程启动时间，单位毫秒）
+public final class StartupMetrics {
+    private static final String TAG = "StartupMetrics";
+    private static final AppLog.Site LOG_PHASE = AppLog.site(Log.INFO, TAG, "Startup phase {}: {}ms");
+    public static final long NOT_RECORDED = -1;
+
+    private static final AtomicLong firstFrameMs = new AtomicLong(NOT_RECORDED);
+    private static final AtomicLong configLoadedMs = new AtomicLong(NOT_RECORDED);
+    private static final AtomicLong connectedMs = new AtomicLong(NOT_RECORDED);
+    private static final AtomicLong firstMessageMs = new AtomicLong(NOT_RECORDED);
+    // 启动连接被用户手动连接/断开取代后，不再记录连接相关阶段
+    private static volatile boolean connectionPhasesEnded;
+
+    private StartupMetrics() {
+    }
+
+    // 每个阶段只记录第一次，重复调用返回NOT_RECORDED
+    public static long markFirstFrame() {
+        return mark(firstFrameMs, "first_frame");
+    }
+
+    public static long markConfigLoaded() {
+        return mark(configLoadedMs, "config_loaded");
+    }
+
+    public static long markConnected() {
+        return connectionPhasesEnded ? NOT_RECORDED : mark(connectedMs, "connected");
+    }
+
+    public static long markFirstMessage() {
+        return connectionPhasesEnded ? NOT_RECORDED : mark(firstMessageMs, "first_message");
+    }
+
+    public static void endConnectionPhases() {
+        connectionPhasesEnded = true;
+    }
+
+    public static String summary() {
+        return "first_frame=" + firstFrameMs.get()
+                + "ms, config_loaded=" + configLoadedMs.get()
+                + "ms, connected=" + connectedMs.get()
+                + "ms, first_message=" + firstMessageMs.get() + "ms";
+    }
+
+    private static long mark(AtomicLong phase, String name) {
+        long elapsed = SystemClock.uptimeMillis() - Process.getStartUptimeMillis();
+        if (!phase.compareAndSet(NOT_RECORDED, elapsed)) {
+            return NOT_RECORDED;
+        }
+        LOG_PHASE.log(name, elapsed);
+        return elapsed;
+    }
+}
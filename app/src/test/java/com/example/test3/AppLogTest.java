@@ -0,0 +1,92 @@
+package com.example.test3;
+
+import android.util.Log;
+import java.nio.charset.StandardCharsets;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class AppLogTest {
+
+    private static String format(String format, int argCount, Object a0, Object a1, Object a2) {
+        StringBuilder sb = new StringBuilder();
+        AppLog.format(sb, format, argCount, a0, a1, a2);
+        return sb.toString();
+    }
+
+    @Test
+    public void format_replacesPlaceholdersInOrder() {
+        assertEquals("a=1, b=2", format("a={}, b={}", 2, 1, 2, null));
+    }
+
+    @Test
+    public void format_keepsPlaceholdersWithoutArguments() {
+        assertEquals("topic t - {}", format("topic {} - {}", 1, "t", null, null));
+        assertEquals("no args {}", format("no args {}", 0, null, null, null));
+    }
+
+    @Test
+    public void format_ignoresExtraArguments() {
+        assertEquals("only x", format("only {}", 3, "x", "y", "z"));
+        assertEquals("plain", format("plain", 2, "x", "y", null));
+    }
+
+    @Test
+    public void format_printsNullArgument() {
+        assertEquals("value null", format("value {}", 1, null, null, null));
+    }
+
+    @Test
+    public void format_decodesByteArrayAsUtf8() {
+        byte[] payload = "你好 mqtt".getBytes(StandardCharsets.UTF_8);
+        assertEquals("payload: 你好 mqtt", format("payload: {}", 1, payload, null, null));
+    }
+
+    @Test
+    public void tryAcquire_suppressesEventsBeyondLimit() {
+        AppLog.Site site = AppLog.site(Log.DEBUG, "Test", "event", 3);
+        long now = 10_000;
+        assertTrue(site.tryAcquire(now));
+        assertTrue(site.tryAcquire(now + 1));
+        assertTrue(site.tryAcquire(now + 2));
+        assertFalse(site.tryAcquire(now + 3));
+        assertFalse(site.tryAcquire(now + 999));
+        assertEquals(2, site.suppressed);
+    }
+
+    @Test
+    public void tryAcquire_resetsAfterWindow() {
+        AppLog.Site site = AppLog.site(Log.DEBUG, "Test", "event", 1);
+        long now = 10_000;
+        assertTrue(site.tryAcquire(now));
+        assertFalse(site.tryAcquire(now + AppLog.RATE_WINDOW_MS - 1));
+        assertTrue(site.tryAcquire(now + AppLog.RATE_WINDOW_MS));
+        assertFalse(site.tryAcquire(now + AppLog.RATE_WINDOW_MS + 1));
+        assertEquals(2, site.suppressed);
+    }
+
+    @Test
+    public void ring_countsDroppedEventsWhenFull() {
+        AppLog.Ring ring = new AppLog.Ring(4);
+        AppLog.Site site = AppLog.site(Log.DEBUG, "Test", "event {}");
+        for (int i = 0; i < 6; i++) {
+            boolean accepted = ring.offer(site, null, 1, i, null, null, 0, false);
+            assertEquals(i < 4, accepted);
+        }
+        assertEquals(2, ring.takeDropped());
+        assertEquals(0, ring.takeDropped());
+
+        AppLog.Event event = new AppLog.Event();
+        for (int i = 0; i < 4; i++) {
+            assertTrue(ring.poll(event));
+            assertEquals(i, event.a0);
+        }
+        assertFalse(ring.poll(event));
+        assertTrue(ring.isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ring_rejectsNonPowerOfTwoCapacity() {
+        new AppLog.Ring(3);
+    }
+}